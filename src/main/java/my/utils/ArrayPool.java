@@ -0,0 +1,281 @@
+package my.utils;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A pool of reusable arrays, that can be passed to the array-methods in {@link Utils}.
+ * An acquired array always has exactly the requested length.
+ * Every thread first uses its own small cache, when that is empty or full the shared lock-free tier is used.
+ * Only arrays up to a maximum length are kept, and both tiers have a total capacity over all lengths,
+ * so the pool never holds more than localCapacity arrays per thread plus sharedCapacity arrays.
+ * Arrays have to be given back with {@link #release(Object[])}, the counters can be used to find arrays that never are
+ */
+public final class ArrayPool {
+
+    // Arrays are grouped into power-of-two size classes, so the buckets don't grow with maxLength
+    private static final int SIZE_CLASSES = 32;
+    private static final int MAX_SHARED_SLOTS = 16;
+
+    private final int localCapacity;
+    private final int sharedCapacity;
+    private final int maxLength;
+    private final int sharedSlots;
+    private final ThreadLocal<LocalCache> local = ThreadLocal.withInitial(LocalCache::new);
+    private final ConcurrentHashMap<Class<?>, AtomicReferenceArray<AtomicReferenceArray<Object[]>>> shared = new ConcurrentHashMap<>();
+    private final AtomicInteger sharedSize = new AtomicInteger();
+    // Only used for debugging, arrays don't override equals and hashCode, so this is an identity-set
+    private final Set<Object[]> checkedOut;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong allocated = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    /**
+     * Create a new pool that keeps arrays of up to 1024 elements,
+     * with a capacity of 16 arrays per thread and 256 shared arrays
+     */
+    public ArrayPool() {
+        this(16, 256, 1024);
+    }
+
+    /**
+     * Create a new pool that doesn't track which arrays are checked out
+     *
+     * @param localCapacity  the amount of arrays each thread keeps over all lengths
+     * @param sharedCapacity the amount of arrays kept in the shared tier over all lengths, at most 16 per component-type and size class
+     * @param maxLength      the length up to which released arrays are kept, longer arrays are dropped
+     * @throws IllegalArgumentException if one of the parameters is negative
+     */
+    public ArrayPool(int localCapacity, int sharedCapacity, int maxLength) {
+        this(localCapacity, sharedCapacity, maxLength, false);
+    }
+
+    /**
+     * Create a new pool
+     *
+     * @param localCapacity   the amount of arrays each thread keeps over all lengths
+     * @param sharedCapacity  the amount of arrays kept in the shared tier over all lengths, at most 16 per component-type and size class
+     * @param maxLength       the length up to which released arrays are kept, longer arrays are dropped
+     * @param trackCheckedOut whether to remember every acquired array, so double and foreign releases are detected.
+     *                        This takes a lock and allocates on every acquire and release, so it is meant for debugging only
+     * @throws IllegalArgumentException if one of the parameters is negative
+     */
+    public ArrayPool(int localCapacity, int sharedCapacity, int maxLength, boolean trackCheckedOut) {
+        if (localCapacity < 0 || sharedCapacity < 0 || maxLength < 0) throw new IllegalArgumentException("Capacities and max-length can't be negative");
+        this.localCapacity = localCapacity;
+        this.sharedCapacity = sharedCapacity;
+        this.maxLength = maxLength;
+        this.sharedSlots = Math.min(sharedCapacity, MAX_SHARED_SLOTS);
+        this.checkedOut = trackCheckedOut ? Collections.newSetFromMap(new WeakHashMap<>()) : null;
+    }
+
+    /**
+     * Take an array of the given class and length from the pool, or allocate a new one if none is available
+     *
+     * @param clazz  the class of the elements in the array
+     * @param length the length of the array
+     * @return an array with all elements set to null
+     * @throws IllegalArgumentException if the length is negative
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T[] acquire(Class<T> clazz, int length) {
+        Utils.requireNotNull(clazz);
+        if (length < 0) throw new IllegalArgumentException(String.format("Length can't be negative, was %d", length));
+        Object[] array = length <= maxLength ? take(clazz, length) : null;
+        if (array == null) {
+            array = (Object[]) Array.newInstance(clazz, length);
+            allocated.incrementAndGet();
+        }
+        if (checkedOut != null) {
+            synchronized (checkedOut) {
+                checkedOut.add(array);
+            }
+        }
+        acquired.incrementAndGet();
+        return (T[]) array;
+    }
+
+    /**
+     * Give the array back to the pool. The array must not be used by the caller afterwards.
+     * Only pools that track checked out arrays detect arrays that are released twice or weren't acquired from them
+     *
+     * @param array the array to release
+     * @throws NullPointerException  if the given array is null
+     * @throws IllegalStateException if the pool tracks checked out arrays and the array
+     *                               wasn't acquired from this pool or was already released
+     */
+    public void release(Object[] array) {
+        Utils.requireNotNull(array);
+        if (checkedOut != null) {
+            final boolean wasCheckedOut;
+            synchronized (checkedOut) {
+                wasCheckedOut = checkedOut.remove(array);
+            }
+            if (!wasCheckedOut) throw new IllegalStateException("Array wasn't acquired from this pool or was already released");
+        }
+        final boolean kept;
+        try {
+            kept = array.length <= maxLength && put(array);
+        } catch (Throwable t) {
+            if (checkedOut != null) {
+                synchronized (checkedOut) {
+                    checkedOut.add(array);
+                }
+            }
+            throw t;
+        }
+        released.incrementAndGet();
+        if (!kept) discarded.incrementAndGet();
+    }
+
+    /**
+     * Get the amount of arrays currently kept in the cache of the calling thread and in the shared tier
+     */
+    public int getPooled() {
+        return local.get().size + sharedSize.get();
+    }
+
+    /**
+     * Get the amount of arrays that were acquired
+     */
+    public long getAcquired() {
+        return acquired.get();
+    }
+
+    /**
+     * Get the amount of arrays that were released
+     */
+    public long getReleased() {
+        return released.get();
+    }
+
+    /**
+     * Get the amount of arrays that had to be newly allocated, because the pool had none available
+     */
+    public long getAllocated() {
+        return allocated.get();
+    }
+
+    /**
+     * Get the amount of released arrays that were dropped, because the pool was full or they were too long
+     */
+    public long getDiscarded() {
+        return discarded.get();
+    }
+
+    /**
+     * Get the amount of arrays that were acquired but not yet released.
+     * A value that keeps growing in a loop indicates a leak
+     */
+    public long getOutstanding() {
+        return acquired.get() - released.get();
+    }
+
+    private static int sizeClass(int length) {
+        return length == 0 ? 0 : 31 - Integer.numberOfLeadingZeros(length);
+    }
+
+    private Object[] take(Class<?> clazz, int length) {
+        final LocalCache cache = local.get();
+        final LocalBucket[] localBuckets = cache.buckets.get(clazz);
+        if (localBuckets != null) {
+            final LocalBucket bucket = localBuckets[sizeClass(length)];
+            if (bucket != null) {
+                for (int i = bucket.arrays.size() - 1; i >= 0; i--) {
+                    if (bucket.arrays.get(i).length == length) {
+                        cache.size--;
+                        return bucket.arrays.remove(i);
+                    }
+                }
+            }
+        }
+        final AtomicReferenceArray<AtomicReferenceArray<Object[]>> sharedBuckets = shared.get(clazz);
+        if (sharedBuckets == null) return null;
+        final AtomicReferenceArray<Object[]> slots = sharedBuckets.get(sizeClass(length));
+        if (slots == null) return null;
+        for (int i = 0; i < slots.length(); i++) {
+            final Object[] array = slots.get(i);
+            if (array != null && array.length == length && slots.compareAndSet(i, array, null)) {
+                sharedSize.decrementAndGet();
+                return array;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Put the array into one of the tiers, clearing it only once a place for it was found
+     *
+     * @return whether the array was kept
+     */
+    private boolean put(Object[] array) {
+        final Class<?> clazz = array.getClass().getComponentType();
+        final int sizeClass = sizeClass(array.length);
+        final LocalCache cache = local.get();
+        if (cache.size < localCapacity) {
+            Arrays.fill(array, null);
+            cache.bucket(clazz, sizeClass).arrays.add(array);
+            cache.size++;
+            return true;
+        }
+        if (sharedSlots == 0) return false;
+        if (sharedSize.incrementAndGet() > sharedCapacity) {
+            sharedSize.decrementAndGet();
+            return false;
+        }
+        AtomicReferenceArray<AtomicReferenceArray<Object[]>> sharedBuckets = shared.get(clazz);
+        if (sharedBuckets == null) {
+            shared.putIfAbsent(clazz, new AtomicReferenceArray<>(SIZE_CLASSES));
+            sharedBuckets = shared.get(clazz);
+        }
+        AtomicReferenceArray<Object[]> slots = sharedBuckets.get(sizeClass);
+        if (slots == null) {
+            sharedBuckets.compareAndSet(sizeClass, null, new AtomicReferenceArray<>(sharedSlots));
+            slots = sharedBuckets.get(sizeClass);
+        }
+        boolean cleared = false;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) continue;
+            if (!cleared) {
+                Arrays.fill(array, null);
+                cleared = true;
+            }
+            if (slots.compareAndSet(i, null, array)) return true;
+        }
+        sharedSize.decrementAndGet();
+        return false;
+    }
+
+    private static final class LocalCache {
+
+        private final Map<Class<?>, LocalBucket[]> buckets = new HashMap<>();
+        private int size;
+
+        private LocalBucket bucket(Class<?> clazz, int sizeClass) {
+            LocalBucket[] bySizeClass = buckets.get(clazz);
+            if (bySizeClass == null) {
+                bySizeClass = new LocalBucket[SIZE_CLASSES];
+                buckets.put(clazz, bySizeClass);
+            }
+            if (bySizeClass[sizeClass] == null) bySizeClass[sizeClass] = new LocalBucket();
+            return bySizeClass[sizeClass];
+        }
+    }
+
+    private static final class LocalBucket {
+
+        private final ArrayList<Object[]> arrays = new ArrayList<>();
+    }
+}
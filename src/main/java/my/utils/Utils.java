@@ -168,7 +168,7 @@ public final class Utils {
 
     /**
      * Reduce the given Array to a new size, using one of tree methods
-     * If the array is smaller than the new max-size, just return it
+     * If the array isn't longer than the new max-size, just return it
      *
      * @param arr     the array to reduce
      * @param maxSize the size of the new array
@@ -176,8 +176,23 @@ public final class Utils {
      * @return the new Array
      */
     public static Object[] reduceArrayAsNeeded(Object[] arr, int maxSize, REDUCTION_METHOD method) {
+        return reduceArrayAsNeeded(arr, maxSize, method, null);
+    }
+
+    /**
+     * Like {@link #reduceArrayAsNeeded(Object[], int, REDUCTION_METHOD)}, but takes the new array from the given {@link ArrayPool}
+     * If the array isn't longer than the new max-size, it is returned as is and nothing is taken from the pool,
+     * so the result must only be released if it isn't the given array
+     *
+     * @param arr     the array to reduce
+     * @param maxSize the size of the new array
+     * @param method  the {@link REDUCTION_METHOD} to use
+     * @param pool    the {@link ArrayPool} to take the new array from, or null to allocate it
+     * @return the new Array
+     */
+    public static Object[] reduceArrayAsNeeded(Object[] arr, int maxSize, REDUCTION_METHOD method, ArrayPool pool) {
         if (arr.length <= maxSize) return arr;
-        Object[] reduced = new Object[maxSize];
+        final Object[] reduced = newArray(Object.class, maxSize, pool);
         switch (method) {
             case FIRST:
                 System.arraycopy(arr, 0, reduced, 0, maxSize);
@@ -213,10 +228,29 @@ public final class Utils {
      * @return the built array
      */
     public static <T> T[] fillArray(int size, Class<T> clazz, FillHandler<T> handler) {
-        final T[] array = (T[]) java.lang.reflect.Array.newInstance(clazz, size);
-        for (int i = 0; i < array.length; i++) {
-            final int finalI = i;
-            array[i] = handler.fill(i, runCatching(() -> array[finalI - 1]));
+        return fillArray(size, clazz, handler, null);
+    }
+
+    /**
+     * Like {@link #fillArray(int, Class, FillHandler)}, but takes the array from the given {@link ArrayPool}
+     *
+     * @param size    the size of the array
+     * @param clazz   the class of the elements in the array
+     * @param handler the handler to call on each element
+     * @param pool    the {@link ArrayPool} to take the array from, or null to allocate it
+     * @return the built array
+     */
+    public static <T> T[] fillArray(int size, Class<T> clazz, FillHandler<T> handler, ArrayPool pool) {
+        final T[] array = newArray(clazz, size, pool);
+        boolean filled = false;
+        try {
+            for (int i = 0; i < array.length; i++) {
+                final int finalI = i;
+                array[i] = handler.fill(i, runCatching(() -> array[finalI - 1]));
+            }
+            filled = true;
+        } finally {
+            if (!filled && pool != null) pool.release(array);
         }
         return array;
     }
@@ -229,7 +263,19 @@ public final class Utils {
      * @return the build array
      */
     public static <T> T[] arrayOf(Class<T> clazz, T... ts) {
-        T[] array = (T[]) Array.newInstance(clazz, ts.length);
+        return arrayOf((ArrayPool) null, clazz, ts);
+    }
+
+    /**
+     * Like {@link #arrayOf(Class, Object[])}, but takes the array from the given {@link ArrayPool}
+     *
+     * @param pool  the {@link ArrayPool} to take the array from, or null to allocate it
+     * @param clazz the class of the elements in the array
+     * @param ts    the object to build the array from
+     * @return the build array
+     */
+    public static <T> T[] arrayOf(ArrayPool pool, Class<T> clazz, T... ts) {
+        final T[] array = newArray(clazz, ts.length, pool);
         System.arraycopy(ts, 0, array, 0, ts.length);
         return array;
     }
@@ -307,10 +353,25 @@ public final class Utils {
      * @throws IllegalArgumentException if the object can't be cast
      */
     public static <A, B> A[] castArray(B[] toCast, Class<A> clazz) {
-        final A[] newArr = (A[]) Array.newInstance(clazz, toCast.length);
+        return castArray(toCast, clazz, null);
+    }
+
+    /**
+     * Like {@link #castArray(Object[], Class)}, but takes the new array from the given {@link ArrayPool}
+     *
+     * @param toCast the array to be cast
+     * @param clazz  the target class of the array
+     * @param pool   the {@link ArrayPool} to take the array from, or null to allocate it
+     * @return the casted array
+     * @throws IllegalArgumentException if the object can't be cast
+     */
+    public static <A, B> A[] castArray(B[] toCast, Class<A> clazz, ArrayPool pool) {
+        for (B b : toCast) {
+            if (!isCastable(b, clazz))
+                throw new IllegalArgumentException(String.format("Object of type %s can't be cast to %s", b.getClass().getName(), clazz.getName()));
+        }
+        final A[] newArr = newArray(clazz, toCast.length, pool);
         for (int i = 0; i < toCast.length; i++) {
-            if (!isCastable(toCast[i], clazz))
-                throw new IllegalArgumentException(String.format("Object of type %s can't be cast to %s", toCast[i].getClass().getName(), newArr[i].getClass().getName()));
             newArr[i] = (A) toCast[i];
         }
         return newArr;
@@ -366,6 +427,14 @@ public final class Utils {
         return builder.toString();
     }
 
+    /**
+     * Take an array from the given {@link ArrayPool}, or allocate a new one if the pool is null
+     */
+    private static <T> T[] newArray(Class<T> clazz, int size, ArrayPool pool) {
+        if (pool == null) return (T[]) Array.newInstance(clazz, size);
+        return pool.acquire(clazz, size);
+    }
+
     /**
      * Methods to use on the reduceArrayAsNeeded methode
      * FIRST -> take the first n elements from the array
@@ -1,3 +1,4 @@
+import my.utils.ArrayPool;
 import my.utils.Pair;
 import my.utils.Utils;
 import org.opentest4j.AssertionFailedError;
@@ -120,6 +121,142 @@ public final class Test {
         assertArrayEquals(arrayOf(String.class, "lorem", "ipsum", "dolor", "sit", "amet"), new String[]{"lorem", "ipsum", "dolor", "sit", "amet"});
     }
 
+    @org.junit.jupiter.api.Test
+    public void testArrayPoolAcquire() {
+        final ArrayPool pool = new ArrayPool();
+        final String[] first = pool.acquire(String.class, 3);
+        assertEquals(3, first.length);
+        first[0] = "Hello";
+        pool.release(first);
+        final String[] second = pool.acquire(String.class, 3);
+        assertSame(first, second);
+        assertNull(second[0]);
+        assertEquals(1, pool.getAllocated());
+        assertEquals(1, pool.getOutstanding());
+        assertThrows(IllegalArgumentException.class, () -> pool.acquire(String.class, -1));
+        assertEquals(2, pool.getAcquired());
+        assertEquals(1, pool.getOutstanding());
+    }
+
+    @org.junit.jupiter.api.Test
+    public void testArrayPoolRelease() {
+        final ArrayPool pool = new ArrayPool(16, 256, 1024, true);
+        final String[] array = pool.acquire(String.class, 2);
+        pool.release(array);
+        assertThrows(IllegalStateException.class, () -> pool.release(array));
+        assertThrows(IllegalStateException.class, () -> pool.release(new String[2]));
+        assertEquals(1, pool.getReleased());
+        assertEquals(0, pool.getOutstanding());
+        assertNotSame(pool.acquire(String.class, 2), pool.acquire(String.class, 2));
+    }
+
+    @org.junit.jupiter.api.Test
+    public void testArrayPoolCapacity() {
+        final ArrayPool pool = new ArrayPool(1, 1, 4);
+        final String[][] arrays = fillArray(3, String[].class, (int i, String[] prev) -> pool.acquire(String.class, 2));
+        Arrays.stream(arrays).forEach(pool::release);
+        assertEquals(1, pool.getDiscarded());
+        pool.release(pool.acquire(String.class, 5));
+        assertEquals(2, pool.getDiscarded());
+        assertEquals(0, pool.getOutstanding());
+    }
+
+    @org.junit.jupiter.api.Test
+    public void testArrayPoolMaxLength() {
+        assertThrows(IllegalArgumentException.class, () -> new ArrayPool(1, 1, -1));
+        final ArrayPool pool = new ArrayPool(16, 256, Integer.MAX_VALUE);
+        final String[] small = pool.acquire(String.class, 1);
+        pool.release(small);
+        assertSame(small, pool.acquire(String.class, 1));
+        final ArrayPool empty = new ArrayPool(16, 256, 0);
+        final String[] none = empty.acquire(String.class, 0);
+        empty.release(none);
+        assertSame(none, empty.acquire(String.class, 0));
+        final String[] tooLong = empty.acquire(String.class, 1);
+        tooLong[0] = "Hello";
+        empty.release(tooLong);
+        assertEquals("Hello", tooLong[0]);
+        assertEquals(1, empty.getDiscarded());
+    }
+
+    @org.junit.jupiter.api.Test
+    public void testArrayPoolCycle() {
+        final ArrayPool pool = new ArrayPool(1, 4, 1024);
+        repeat(1000, () -> {
+            pool.release(pool.acquire(String.class, 8));
+            pool.release(pool.acquire(Integer.class, 300));
+        });
+        assertEquals(2, pool.getPooled());
+        assertEquals(2, pool.getAllocated());
+        final java.lang.management.ThreadMXBean bean = java.lang.management.ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) bean;
+            final long before = allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+            for (int i = 0; i < 10000; i++) {
+                pool.release(pool.acquire(String.class, 8));
+                pool.release(pool.acquire(Integer.class, 300));
+            }
+            final long after = allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+            assertTrue(after - before < 10000, String.format("Acquire and release allocated %d bytes", after - before));
+        }
+        assertEquals(2, pool.getPooled());
+        assertEquals(2, pool.getAllocated());
+    }
+
+    @org.junit.jupiter.api.Test
+    public void testArrayPoolSharedTier() throws InterruptedException {
+        final ArrayPool pool = new ArrayPool(0, 4, 16);
+        final AtomicReference<String[]> released = new AtomicReference<>();
+        final Thread thread = new Thread(() -> {
+            released.set(pool.acquire(String.class, 2));
+            pool.release(released.get());
+        });
+        thread.start();
+        thread.join();
+        assertSame(released.get(), pool.acquire(String.class, 2));
+        assertEquals(1, pool.getAllocated());
+    }
+
+    @org.junit.jupiter.api.Test
+    public void testFillArrayPooled() {
+        final ArrayPool pool = new ArrayPool();
+        assertArrayEquals(fillArray(3, String.class, (int i, String prev) -> "Hello", pool), new String[]{"Hello", "Hello", "Hello"});
+        assertThrows(IllegalStateException.class, () -> fillArray(3, String.class, (int i, String prev) -> {
+            throw new IllegalStateException();
+        }, pool));
+        assertThrows(StackOverflowError.class, () -> fillArray(3, String.class, (int i, String prev) -> {
+            throw new StackOverflowError();
+        }, pool));
+        assertEquals(1, pool.getOutstanding());
+    }
+
+    @org.junit.jupiter.api.Test
+    public void testArrayOfPooled() {
+        final ArrayPool pool = new ArrayPool();
+        final String[] array = arrayOf(pool, String.class, "lorem", "ipsum", "dolor");
+        assertArrayEquals(array, new String[]{"lorem", "ipsum", "dolor"});
+        pool.release(array);
+        assertSame(array, arrayOf(pool, String.class, "sit", "amet", "lorem"));
+    }
+
+    @org.junit.jupiter.api.Test
+    public void testReduceArrayAsNeededPooled() {
+        final ArrayPool pool = new ArrayPool();
+        final String[] originalArray = new String[]{"lorem", "ipsum", "dolor"};
+        assertArrayEquals(reduceArrayAsNeeded(originalArray, 2, REDUCTION_METHOD.FIRST, pool), new String[]{"lorem", "ipsum"});
+        assertSame(originalArray, reduceArrayAsNeeded(originalArray, 3, REDUCTION_METHOD.FIRST, pool));
+        assertEquals(1, pool.getAcquired());
+    }
+
+    @org.junit.jupiter.api.Test
+    public void testCastArrayPooled() {
+        final ArrayPool pool = new ArrayPool();
+        assertInstanceOf(String[].class, castArray(arrayOf(Object.class, "Hello", "World"), String.class, pool));
+        assertThrows(IllegalArgumentException.class, () -> castArray(arrayOf(Object.class, "Hello", 1), String.class, pool));
+        assertEquals(1, pool.getAcquired());
+        assertEquals(1, pool.getOutstanding());
+    }
+
     @org.junit.jupiter.api.Test
     public void testNow() {
         assertEquals(LocalDateTime.now().getDayOfYear(), now().getDayOfYear());